@@ -0,0 +1,201 @@
+package uk.co.drnaylor.sponge.tutorial;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Sponge's async scheduler (Task.builder().async()) is a thread pool that is shared
+ * between every plugin on the server. That's fine for the odd quick job, but if you
+ * do a lot of blocking I/O (reading files, writing logs, talking to a database) you
+ * will tie up threads that other plugins want to use too.
+ *
+ * This class gives the plugin its own executor for that sort of work. By default,
+ * it is a small, bounded pool of normal (platform) threads. If the server is running
+ * on Java 21 or later, it will use virtual threads instead, unless that is turned off
+ * in the config. These are cheap threads that the JVM parks while they're blocked on
+ * I/O, so a slow file read doesn't use up a pool thread.
+ *
+ * Sponge API 7 targets Java 8, so we can't call the virtual thread methods directly.
+ * Instead, we look them up with reflection and fall back to the normal pool if they
+ * aren't there.
+ *
+ * DO NOT USE GAME OBJECTS ON THESE THREADS. Like any async task, anything you do here
+ * must not touch worlds, entities or players - schedule a sync task for that.
+ */
+public class BackgroundExecutor {
+
+    private final Logger logger;
+    private final ExecutorService executorService;
+    private final boolean virtualThreads;
+
+    // Metrics for each job type, keyed on the job type name
+    private final Map<String, JobMetrics> metrics = new ConcurrentHashMap<>();
+
+    public BackgroundExecutor(Logger logger, int threads, boolean useVirtualThreads) {
+        this.logger = logger;
+
+        ExecutorService virtualExecutor = useVirtualThreads ? createVirtualThreadExecutor() : null;
+        if (virtualExecutor != null) {
+            this.executorService = virtualExecutor;
+            this.virtualThreads = true;
+        } else {
+            if (useVirtualThreads) {
+                this.logger.info("Virtual threads are not supported on this Java version, using a normal thread pool instead.");
+            }
+
+            // A fixed size pool. Threads are daemon threads so that they never hold
+            // up the server shutting down.
+            int poolSize = Math.max(threads, 1);
+            this.executorService = new ThreadPoolExecutor(
+                    poolSize,
+                    poolSize,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder().setNameFormat("Tutorial - background %d").setDaemon(true).build());
+            this.virtualThreads = false;
+        }
+    }
+
+    /*
+     * Tries to call Executors.newVirtualThreadPerTaskExecutor(), which only
+     * exists on Java 21 and later. Returns null if it isn't available.
+     */
+    private ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets whether this executor is running jobs on virtual threads.
+     *
+     * @return <code>true</code> if virtual threads are in use
+     */
+    public boolean isUsingVirtualThreads() {
+        return this.virtualThreads;
+    }
+
+    /**
+     * Runs a job in the background.
+     *
+     * @param jobType The type of job, used to group metrics
+     * @param runnable The job to run
+     * @return <code>true</code> if the job was accepted
+     */
+    public boolean execute(String jobType, Runnable runnable) {
+        JobMetrics jobMetrics = this.metrics.computeIfAbsent(jobType, k -> new JobMetrics());
+        final long queuedAt = System.nanoTime();
+        try {
+            this.executorService.execute(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    runnable.run();
+                } catch (Exception e) {
+                    jobMetrics.failures.increment();
+                    this.logger.error("Background job \"" + jobType + "\" failed", e);
+                } finally {
+                    jobMetrics.record(startedAt - queuedAt, System.nanoTime() - startedAt);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // We're shutting down, so don't bother running anything new.
+            this.logger.warn("Background job \"" + jobType + "\" was rejected, the executor has been shut down.");
+            return false;
+        }
+    }
+
+    /**
+     * Gets a snapshot of the metrics for each job type, sorted by job type.
+     *
+     * @return The metrics
+     */
+    public Map<String, JobMetrics> getMetrics() {
+        return new TreeMap<>(this.metrics);
+    }
+
+    /*
+     * Stops accepting jobs and waits a short time for any that are running
+     * to finish.
+     */
+    public void shutdown() {
+        this.executorService.shutdown();
+        try {
+            if (!this.executorService.awaitTermination(5, TimeUnit.SECONDS)) {
+                this.logger.warn("Background jobs did not finish in time, interrupting them.");
+                this.executorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            this.executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Counters for one type of job. We use LongAdders as lots of threads
+     * might be updating these at once.
+     */
+    public static class JobMetrics {
+
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalQueueNanos = new LongAdder();
+        private final LongAdder totalRunNanos = new LongAdder();
+        private final AtomicLong maxQueueNanos = new AtomicLong();
+        private final AtomicLong maxRunNanos = new AtomicLong();
+
+        private void record(long queueNanos, long runNanos) {
+            this.runs.increment();
+            this.totalQueueNanos.add(queueNanos);
+            this.totalRunNanos.add(runNanos);
+            this.maxQueueNanos.accumulateAndGet(queueNanos, Math::max);
+            this.maxRunNanos.accumulateAndGet(runNanos, Math::max);
+        }
+
+        public long getRuns() {
+            return this.runs.sum();
+        }
+
+        public long getFailures() {
+            return this.failures.sum();
+        }
+
+        public double getAverageQueueMillis() {
+            return average(this.totalQueueNanos.sum());
+        }
+
+        public double getAverageRunMillis() {
+            return average(this.totalRunNanos.sum());
+        }
+
+        public double getMaxQueueMillis() {
+            return this.maxQueueNanos.get() / 1_000_000.0;
+        }
+
+        public double getMaxRunMillis() {
+            return this.maxRunNanos.get() / 1_000_000.0;
+        }
+
+        private double average(long totalNanos) {
+            long count = this.runs.sum();
+            return count == 0 ? 0 : totalNanos / (count * 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package uk.co.drnaylor.sponge.tutorial;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/*
+ * Configurate is great for settings, but it isn't designed for huge lists. Loading a
+ * config file with a list of hundreds of thousands of words in it will block the server
+ * while it is parsed, and build a node for every single entry.
+ *
+ * Instead, we keep large lists (such as banned words) in their own plain text files in
+ * the config directory, one entry per line. Blank lines and lines starting with # are
+ * ignored. This class reads those files off the main thread:
+ *
+ * * Small files are just read in one go
+ * * Large files are memory mapped, split into chunks on line boundaries and each chunk
+ *   is parsed as a separate background job, so that they are parsed in parallel
+ *
+ * The load method returns straight away with a CompletableFuture, so the server can carry
+ * on starting up. When the future completes, you get the whole list in file order - swap
+ * it into a volatile field in one go so that other threads never see a half built list.
+ */
+public class ListFileLoader {
+
+    // Files bigger than this are mapped and parsed in chunks
+    private static final long CHUNK_SIZE = 1024 * 1024;
+
+    private final Tasks tasks;
+
+    public ListFileLoader(Tasks tasks) {
+        this.tasks = tasks;
+    }
+
+    /**
+     * Loads the entries in a list file in the background.
+     *
+     * @param file The file to load
+     * @param jobType The job type to run the background jobs under
+     * @return A future that completes with the entries in the file
+     */
+    public CompletableFuture<List<String>> load(Path file, String jobType) {
+        return supplyInBackground(jobType, () -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size <= CHUNK_SIZE) {
+                    ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                        // keep reading until the buffer is full
+                    }
+
+                    buffer.flip();
+                    return CompletableFuture.completedFuture(parse(buffer));
+                }
+
+                // The mapping stays valid after the channel is closed.
+                return parseInChunks(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), jobType);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not read " + file, e);
+            }
+        }).thenCompose(future -> future);
+    }
+
+    /*
+     * Splits the mapped file into roughly CHUNK_SIZE pieces, making sure that
+     * each piece ends on a new line so no entry is split across two chunks. As
+     * UTF-8 never uses the new line byte in the middle of a character, it's safe
+     * to decode each chunk on its own.
+     */
+    private CompletableFuture<List<String>> parseInChunks(MappedByteBuffer mapped, String jobType) {
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>();
+        int limit = mapped.limit();
+        int start = 0;
+        while (start < limit) {
+            int end = (int) Math.min(start + CHUNK_SIZE, limit);
+            while (end < limit && mapped.get(end - 1) != '\n') {
+                end++;
+            }
+
+            ByteBuffer chunk = mapped.duplicate();
+            chunk.position(start).limit(end);
+            ByteBuffer slice = chunk.slice();
+            chunks.add(supplyInBackground(jobType, () -> parse(slice)));
+            start = end;
+        }
+
+        // Put the chunks back together in file order once they've all finished.
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            ImmutableList.Builder<String> builder = ImmutableList.builder();
+            chunks.forEach(chunk -> builder.addAll(chunk.join()));
+            return builder.build();
+        });
+    }
+
+    private static List<String> parse(ByteBuffer buffer) {
+        List<String> entries = new ArrayList<>();
+        String contents = StandardCharsets.UTF_8.decode(buffer).toString();
+        int lineStart = 0;
+        while (lineStart < contents.length()) {
+            int lineEnd = contents.indexOf('\n', lineStart);
+            if (lineEnd == -1) {
+                lineEnd = contents.length();
+            }
+
+            String line = contents.substring(lineStart, lineEnd).trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                entries.add(line);
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        return entries;
+    }
+
+    /*
+     * Runs something on the background executor and gives us a future for the result.
+     */
+    private <T> CompletableFuture<T> supplyInBackground(String jobType, Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        boolean accepted = this.tasks.runInBackground(jobType, () -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        if (!accepted) {
+            future.completeExceptionally(new IllegalStateException("The background executor has been shut down."));
+        }
+
+        return future;
+    }
+}
@@ -18,13 +18,18 @@ import org.spongepowered.api.text.format.TextColors;
 import org.spongepowered.api.text.format.TextStyles;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 // See https://docs.spongepowered.org/stable/en/plugin/event/index.html for more
 // info about listeners
 public class Listeners {
 
+    // Splits chat messages into words, anything that isn't a letter or number separates words
+    private static final Pattern WORD_SPLITTER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     private final Tutorial plugin;
 
     public Listeners(Tutorial plugin) {
@@ -97,15 +102,22 @@ public class Listeners {
      */
     @Listener
     public void onPlayerChat(MessageChannelEvent.Chat event, @Root Player player) {
-        // We might want to block the word "Hello". We can do that by getting the message
-        // and then blocking the word
+        // We might want to block some words, such as "Hello". We can do that by getting the message
+        // and then checking each word in it against our banned word list (see banned-words.txt)
+        //
+        // The list can be very big, so we look up each word in the set rather than searching
+        // the message for every banned word.
+        Set<String> bannedWords = this.plugin.getBannedWords();
         Text message = event.getMessage(); // could use "@Getter("getMessage") Text message" in the event sig
-        if (message.toPlain().toLowerCase().contains("hello")) {
-            // block it - you might want a permission check though!
-            event.setCancelled(true);
+        for (String word : WORD_SPLITTER.split(message.toPlain().toLowerCase())) {
+            if (bannedWords.contains(word)) {
+                // block it - you might want a permission check though!
+                event.setCancelled(true);
 
-            // send a message to the player telling them it's a banned word
-            player.sendMessage(Text.of(TextColors.RED, "Hello is a banned word on this server"));
+                // send a message to the player telling them it's a banned word
+                player.sendMessage(Text.of(TextColors.RED, word, " is a banned word on this server"));
+                return;
+            }
         }
     }
 
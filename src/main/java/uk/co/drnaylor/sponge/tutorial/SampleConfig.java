@@ -26,6 +26,10 @@ import ninja.leaping.configurate.objectmapping.serialize.ConfigSerializable;
  *  plugin-name=default-value
  *  # The number of seconds to countdown before sending a message on command.
  *  countdown=3
+ *  # The number of threads used for background jobs, if virtual threads are not used.
+ *  background-threads=2
+ *  # If true, background jobs run on virtual threads when the Java version supports them.
+ *  use-virtual-threads=true
  *  sub-config {
  *      sub-name=sub-value
  *  }
@@ -46,6 +50,12 @@ public class SampleConfig {
     @Setting(value = "countdown", comment = "The number of seconds to countdown before sending a message on command.")
     private int countdown = 3;
 
+    @Setting(value = "background-threads", comment = "The number of threads used for background jobs, if virtual threads are not used.")
+    private int backgroundThreads = 2;
+
+    @Setting(value = "use-virtual-threads", comment = "If true, background jobs run on virtual threads when the Java version supports them.")
+    private boolean useVirtualThreads = true;
+
     /*
      * As SubConfig is a ConfigSerializable, this creates a config key "sub-config", and
      * it's items are stored within it.
@@ -65,6 +75,14 @@ public class SampleConfig {
         return this.countdown;
     }
 
+    public int getBackgroundThreads() {
+        return this.backgroundThreads;
+    }
+
+    public boolean isUseVirtualThreads() {
+        return this.useVirtualThreads;
+    }
+
     @ConfigSerializable
     public static class SubConfig {
 
@@ -99,4 +99,14 @@ public class Tasks {
                 }) // Lambda method
                 .submit(this.plugin); // Creates and submits the task
     }
+
+    /*
+     * Runs a job on the plugin's own background executor, rather than Sponge's
+     * shared async pool. Use this for blocking I/O, such as reading and writing files.
+     *
+     * The job type is used to group the queue and run time metrics, see /bgstats
+     */
+    public boolean runInBackground(String jobType, Runnable runnable) {
+        return this.plugin.getBackgroundExecutor().execute(jobType, runnable);
+    }
 }
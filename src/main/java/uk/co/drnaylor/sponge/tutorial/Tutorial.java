@@ -1,5 +1,6 @@
 package uk.co.drnaylor.sponge.tutorial;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.reflect.TypeToken;
 import ninja.leaping.configurate.commented.CommentedConfigurationNode;
 import ninja.leaping.configurate.loader.ConfigurationLoader;
@@ -17,6 +18,7 @@ import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.game.state.GameInitializationEvent;
 import org.spongepowered.api.event.game.state.GameStartedServerEvent;
+import org.spongepowered.api.event.game.state.GameStoppingEvent;
 import org.spongepowered.api.plugin.Plugin;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.format.TextColors;
@@ -24,9 +26,13 @@ import org.spongepowered.api.text.serializer.TextSerializer;
 import org.spongepowered.api.text.serializer.TextSerializers;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.inject.Inject;
 
@@ -172,10 +178,45 @@ public class Tutorial {
         return this.config;
     }
 
+    /**
+     * Gets the executor for background jobs
+     *
+     * @return The {@link BackgroundExecutor}
+     */
+    public BackgroundExecutor getBackgroundExecutor() {
+        return this.backgroundExecutor;
+    }
+
+    /**
+     * Gets the words that players are not allowed to say in chat, in lower case.
+     *
+     * <p>This is loaded in the background, so may be the default list for a short
+     * time after the server has started.</p>
+     *
+     * @return The banned words
+     */
+    public Set<String> getBannedWords() {
+        return this.bannedWords;
+    }
+
     // Tasks object
 
     private final Tasks tasks = new Tasks(this);
 
+    /*
+     * Our own executor for blocking background work, see BackgroundExecutor.
+     * This is created once the config has been loaded.
+     */
+    private BackgroundExecutor backgroundExecutor;
+
+    /*
+     * The banned word list can be huge, so it lives in its own file, banned-words.txt,
+     * in the config directory rather than in the main config. It's loaded in the
+     * background, and once it's fully built, the new set replaces this one in a single
+     * write. The field is volatile so that the chat listener always sees a complete set.
+     */
+    private volatile Set<String> bannedWords = ImmutableSet.of("hello");
+
     // SERVER INITIALISATION
 
     // See https://docs.spongepowered.org/stable/en/plugin/lifecycle.html
@@ -252,6 +293,17 @@ public class Tutorial {
             e.printStackTrace();
         }
 
+        // If the config failed to load, fall back to the defaults.
+        SampleConfig executorConfig = this.config == null ? new SampleConfig() : this.config;
+        this.backgroundExecutor = new BackgroundExecutor(
+                this.logger,
+                executorConfig.getBackgroundThreads(),
+                executorConfig.isUseVirtualThreads());
+
+        // Start loading the large lists. We don't wait for this - the server will carry on
+        // starting up and the lists will be swapped in when they're ready.
+        loadBannedWords();
+
         // Creating commands
         // https://docs.spongepowered.org/stable/en/plugin/commands/index.html
 
@@ -351,14 +403,76 @@ public class Tutorial {
                                 })
                                 .build(), "healint");
 
+        // Command /bgstats
+        Sponge.getCommandManager()
+                .register(this,
+                        CommandSpec.builder()
+                                .permission("tutorial.bgstats")
+                                .executor((src, context) -> {
+                                    src.sendMessage(Text.of(TextColors.GREEN, "Background jobs (",
+                                            this.backgroundExecutor.isUsingVirtualThreads() ? "virtual threads" : "thread pool", "):"));
+                                    Map<String, BackgroundExecutor.JobMetrics> metrics = this.backgroundExecutor.getMetrics();
+                                    if (metrics.isEmpty()) {
+                                        src.sendMessage(Text.of(TextColors.YELLOW, "No background jobs have run yet."));
+                                    }
+
+                                    // Times are in milliseconds
+                                    metrics.forEach((jobType, jobMetrics) -> src.sendMessage(Text.of(
+                                            TextColors.YELLOW, jobType, ": ",
+                                            TextColors.WHITE, String.format(
+                                                    "%d runs, %d failed, queued %.1fms avg/%.1fms max, ran %.1fms avg/%.1fms max",
+                                                    jobMetrics.getRuns(),
+                                                    jobMetrics.getFailures(),
+                                                    jobMetrics.getAverageQueueMillis(),
+                                                    jobMetrics.getMaxQueueMillis(),
+                                                    jobMetrics.getAverageRunMillis(),
+                                                    jobMetrics.getMaxRunMillis()))));
+                                    return CommandResult.success();
+                                })
+                                .build(), "bgstats");
+
         // Registering events is as easy as this. The first object in the method is the plugin object
         // (the one annotated with @Plugin), the second is your object containing listeners
         Sponge.getEventManager().registerListeners(this, new Listeners(this));
     }
 
+    private void loadBannedWords() {
+        Path bannedWordsFile = this.defaultConfigDirectory.resolve("banned-words.txt");
+        this.tasks.runInBackground("list-load", () -> {
+            // Create the default file if there isn't one yet.
+            if (!Files.exists(bannedWordsFile)) {
+                try {
+                    Files.createDirectories(this.defaultConfigDirectory);
+                    Files.write(bannedWordsFile, Arrays.asList("# One banned word per line", "hello"), StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    this.logger.error("Could not create " + bannedWordsFile, e);
+                    return;
+                }
+            }
+
+            new ListFileLoader(this.tasks).load(bannedWordsFile, "list-load").whenComplete((words, throwable) -> {
+                if (throwable != null) {
+                    this.logger.error("Could not load the banned words, keeping the current list.", throwable);
+                    return;
+                }
+
+                ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+                words.forEach(word -> builder.add(word.toLowerCase()));
+                this.bannedWords = builder.build();
+                this.logger.info("Loaded " + this.bannedWords.size() + " banned words.");
+            });
+        });
+    }
+
     @Listener
     public void onServerStart(GameStartedServerEvent event) {
         // Simple log message using the injected field
         this.logger.info("Server has started!");
     }
+
+    @Listener
+    public void onServerStopping(GameStoppingEvent event) {
+        // Let any background jobs finish (such as saving files) before the server goes away.
+        this.backgroundExecutor.shutdown();
+    }
 }